@@ -0,0 +1,184 @@
+package io.mutshiv.eod;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import io.mutshiv.journal.EventJournal;
+import io.mutshiv.orderBook.LimitOrderBook;
+
+/**
+ * EndOfDayEngine
+ *
+ * Batch statistics and reconciliation over the {@link EventJournal} files of
+ * many instruments. Each instrument is its own fork/join task, which splits its
+ * journal further into record ranges. A leaf only ever maps one window of at
+ * most chunkRecords records, so memory stays bounded however big the journals
+ * are.
+ */
+public class EndOfDayEngine {
+
+    public static final int DEFAULT_CHUNK_RECORDS = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private final int chunkRecords;
+
+    public EndOfDayEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_RECORDS);
+    }
+
+    /**
+     * @param pool         : pool the instrument and chunk tasks run on
+     * @param chunkRecords : records per mapped window
+     */
+    public EndOfDayEngine(ForkJoinPool pool, int chunkRecords) {
+        if (chunkRecords <= 0 || (long) chunkRecords * EventJournal.RECORD_SIZE > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("chunkRecords out of range: " + chunkRecords);
+
+        this.pool = pool;
+        this.chunkRecords = chunkRecords;
+    }
+
+    /**
+     * @param journals : instrument -> journal file
+     * @return Map<String, InstrumentStatistics> : in the iteration order of the
+     *         journals map
+     */
+    public Map<String, InstrumentStatistics> computeStatistics(Map<String, Path> journals) {
+        return pool.invoke(new StatisticsTask(journals));
+    }
+
+    /**
+     * Checks every book against the statistics of its instrument.
+     *
+     * @param statistics : output of {@link #computeStatistics(Map)}
+     * @param books      : instrument -> book at end of day
+     * @return List<String> : instruments whose book does not agree with the
+     *         journal, empty if all reconcile
+     */
+    public List<String> reconcile(Map<String, InstrumentStatistics> statistics, Map<String, LimitOrderBook> books) {
+        List<String> breaks = new ArrayList<>();
+
+        books.forEach((instrument, lob) -> {
+            InstrumentStatistics stats = statistics.get(instrument);
+            if (stats == null || !stats.isConsistentWith(lob))
+                breaks.add(instrument);
+        });
+
+        return breaks;
+    }
+
+    private class StatisticsTask extends RecursiveTask<Map<String, InstrumentStatistics>> {
+
+        private final Map<String, Path> journals;
+
+        StatisticsTask(Map<String, Path> journals) {
+            this.journals = journals;
+        }
+
+        @Override
+        protected Map<String, InstrumentStatistics> compute() {
+            List<InstrumentTask> tasks = new ArrayList<>();
+            journals.forEach((instrument, path) -> tasks.add(new InstrumentTask(instrument, path)));
+
+            invokeAll(tasks);
+
+            Map<String, InstrumentStatistics> statistics = new LinkedHashMap<>();
+            for (InstrumentTask task : tasks)
+                statistics.put(task.instrument, task.join());
+            return statistics;
+        }
+    }
+
+    private class InstrumentTask extends RecursiveTask<InstrumentStatistics> {
+
+        private final String instrument;
+        private final Path path;
+
+        InstrumentTask(String instrument, Path path) {
+            this.instrument = instrument;
+            this.path = path;
+        }
+
+        @Override
+        protected InstrumentStatistics compute() {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long records = channel.size() / EventJournal.RECORD_SIZE;
+                return new ChunkTask(instrument, channel, 0, records).compute();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private class ChunkTask extends RecursiveTask<InstrumentStatistics> {
+
+        private final String instrument;
+        private final FileChannel channel;
+        private final long fromRecord;
+        private final long toRecord;
+
+        ChunkTask(String instrument, FileChannel channel, long fromRecord, long toRecord) {
+            this.instrument = instrument;
+            this.channel = channel;
+            this.fromRecord = fromRecord;
+            this.toRecord = toRecord;
+        }
+
+        @Override
+        protected InstrumentStatistics compute() {
+            long records = toRecord - fromRecord;
+
+            if (records <= chunkRecords)
+                return this.scan();
+
+            long middle = fromRecord + records / 2;
+            ChunkTask left = new ChunkTask(instrument, channel, fromRecord, middle);
+            ChunkTask right = new ChunkTask(instrument, channel, middle, toRecord);
+
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+
+        private InstrumentStatistics scan() {
+            InstrumentStatistics stats = new InstrumentStatistics(instrument);
+            if (fromRecord == toRecord)
+                return stats;
+
+            MappedByteBuffer window;
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, fromRecord * EventJournal.RECORD_SIZE,
+                        (toRecord - fromRecord) * EventJournal.RECORD_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            window.order(ByteOrder.LITTLE_ENDIAN);
+
+            for (int offset = 0; offset < window.limit(); offset += EventJournal.RECORD_SIZE) {
+                byte type = window.get(offset);
+                boolean buy = window.get(offset + 1) == EventJournal.BUY;
+                int quantity = window.getInt(offset + 4);
+
+                if (type == EventJournal.ENTER) {
+                    stats.onEntry(buy, quantity);
+                } else if (type == EventJournal.EXIT) {
+                    stats.onExit(buy, quantity);
+                } else if (type == EventJournal.FILL) {
+                    stats.onFill(quantity, window.getDouble(offset + 16));
+                }
+            }
+
+            return stats;
+        }
+    }
+}
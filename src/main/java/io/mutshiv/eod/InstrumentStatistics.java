@@ -0,0 +1,161 @@
+package io.mutshiv.eod;
+
+import java.util.concurrent.PriorityBlockingQueue;
+
+import io.mutshiv.orderBook.LimitOrderBook;
+import io.mutshiv.orderBook.Order;
+
+/**
+ * InstrumentStatistics
+ *
+ * End of day aggregates of a single instrument. Every field is additive (or a
+ * min/max) so partial results of journal chunks can be merged in any order.
+ */
+public class InstrumentStatistics {
+
+    private final String instrument;
+
+    private long tradeCount;
+    private long volume;
+    private double notional;
+    private double high = Double.NEGATIVE_INFINITY;
+    private double low = Double.POSITIVE_INFINITY;
+
+    private long orderCount;
+    private long restingBuyQuantity;
+    private long restingSellQuantity;
+
+    public InstrumentStatistics(String instrument) {
+        this.instrument = instrument;
+    }
+
+    void onEntry(boolean buy, int quantity) {
+        this.orderCount++;
+        if (buy) {
+            this.restingBuyQuantity += quantity;
+        } else {
+            this.restingSellQuantity += quantity;
+        }
+    }
+
+    void onExit(boolean buy, int quantity) {
+        if (buy) {
+            this.restingBuyQuantity -= quantity;
+        } else {
+            this.restingSellQuantity -= quantity;
+        }
+    }
+
+    /**
+     * A fill takes the quantity off both sides of the book.
+     */
+    void onFill(int quantity, double price) {
+        this.tradeCount++;
+        this.volume += quantity;
+        this.notional += quantity * price;
+        this.high = Math.max(this.high, price);
+        this.low = Math.min(this.low, price);
+
+        this.restingBuyQuantity -= quantity;
+        this.restingSellQuantity -= quantity;
+    }
+
+    /**
+     * @param other : partial result of another part of the same journal
+     * @return this, for chaining
+     */
+    InstrumentStatistics merge(InstrumentStatistics other) {
+        this.tradeCount += other.tradeCount;
+        this.volume += other.volume;
+        this.notional += other.notional;
+        this.high = Math.max(this.high, other.high);
+        this.low = Math.min(this.low, other.low);
+        this.orderCount += other.orderCount;
+        this.restingBuyQuantity += other.restingBuyQuantity;
+        this.restingSellQuantity += other.restingSellQuantity;
+        return this;
+    }
+
+    /**
+     * Checks the resting state of the book against what the journal says
+     * should be left on it.
+     *
+     * @param lob : the book the journal was recorded from
+     * @return Boolean : true if the resting quantities on both sides agree
+     */
+    public boolean isConsistentWith(LimitOrderBook lob) {
+        return restingQuantity(lob.getBuyOrders()) == this.restingBuyQuantity
+                && restingQuantity(lob.getSellOrders()) == this.restingSellQuantity;
+    }
+
+    private static long restingQuantity(PriorityBlockingQueue<Order> sideOrderQueue) {
+        long quantity = 0;
+        for (Order order : sideOrderQueue)
+            quantity += order.getQuantity();
+        return quantity;
+    }
+
+    public String getInstrument() {
+        return instrument;
+    }
+
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    /**
+     * @return double : volume weighted average price, NaN if nothing traded
+     */
+    public double getVwap() {
+        return volume == 0 ? Double.NaN : notional / volume;
+    }
+
+    /**
+     * @return double : NaN if nothing traded
+     */
+    public double getHigh() {
+        return tradeCount == 0 ? Double.NaN : high;
+    }
+
+    /**
+     * @return double : NaN if nothing traded
+     */
+    public double getLow() {
+        return tradeCount == 0 ? Double.NaN : low;
+    }
+
+    /**
+     * @return long : number of times an order (new or modified) entered the book
+     */
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Open interest on the BUY side, i.e. the quantity still resting at end of
+     * day.
+     */
+    public long getRestingBuyQuantity() {
+        return restingBuyQuantity;
+    }
+
+    /**
+     * Open interest on the SELL side, i.e. the quantity still resting at end of
+     * day.
+     */
+    public long getRestingSellQuantity() {
+        return restingSellQuantity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s [Trades: %d, Volume: %d, VWAP: %.4f, High: %.2f, Low: %.2f, Orders: %d, Open Interest: BUY %d / SELL %d]",
+                instrument, tradeCount, volume, getVwap(), getHigh(), getLow(), orderCount, restingBuyQuantity,
+                restingSellQuantity);
+    }
+}
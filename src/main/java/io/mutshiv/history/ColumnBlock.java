@@ -0,0 +1,279 @@
+package io.mutshiv.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * ColumnBlock
+ *
+ * A block of history records laid out column by column, then deflated. Within
+ * a column consecutive values are close, so the encodings below keep them
+ * small before compression:
+ * <ul>
+ * <li>timestamps and price ticks: zig-zag varint deltas from the previous row</li>
+ * <li>order ids: indexes into a dictionary local to the block</li>
+ * <li>quantities: varints</li>
+ * </ul>
+ * Prices are stored as ticks of the block's tick size, so they are rounded to
+ * it.
+ */
+class ColumnBlock {
+
+    private final double tickSize;
+    private final int capacity;
+
+    private final byte[] types;
+    private final byte[] sides;
+    private final long[] timestamps;
+    private final long[] priceTicks;
+    private final int[] quantities;
+    private final int[] orderIds;
+    private final int[] counterOrderIds;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> dictionaryEntries = new ArrayList<>();
+
+    private int rows;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    ColumnBlock(int capacity, double tickSize) {
+        this.capacity = capacity;
+        this.tickSize = tickSize;
+        this.types = new byte[capacity];
+        this.sides = new byte[capacity];
+        this.timestamps = new long[capacity];
+        this.priceTicks = new long[capacity];
+        this.quantities = new int[capacity];
+        this.orderIds = new int[capacity];
+        this.counterOrderIds = new int[capacity];
+    }
+
+    void add(HistoryRecord record) {
+        types[rows] = record.getType();
+        sides[rows] = record.getSide();
+        timestamps[rows] = record.getTimestamp();
+        priceTicks[rows] = Math.round(record.getPrice() / tickSize);
+        quantities[rows] = record.getQuantity();
+        orderIds[rows] = this.lookup(record.getOrderId());
+        counterOrderIds[rows] = record.getCounterOrderId() == null ? -1 : this.lookup(record.getCounterOrderId());
+
+        minTimestamp = Math.min(minTimestamp, record.getTimestamp());
+        maxTimestamp = Math.max(maxTimestamp, record.getTimestamp());
+        rows++;
+    }
+
+    private int lookup(String id) {
+        Integer index = dictionary.get(id);
+        if (index == null) {
+            index = dictionaryEntries.size();
+            dictionary.put(id, index);
+            dictionaryEntries.add(id);
+        }
+        return index;
+    }
+
+    boolean isEmpty() {
+        return rows == 0;
+    }
+
+    boolean isFull() {
+        return rows == capacity;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    void clear() {
+        rows = 0;
+        minTimestamp = Long.MAX_VALUE;
+        maxTimestamp = Long.MIN_VALUE;
+        dictionary.clear();
+        dictionaryEntries.clear();
+    }
+
+    /**
+     * @return byte[] : the uncompressed column layout
+     */
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows * 8 + dictionaryEntries.size() * 38);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeDouble(tickSize);
+        writeVarLong(out, rows);
+        writeVarLong(out, dictionaryEntries.size());
+        for (String id : dictionaryEntries)
+            out.writeUTF(id);
+
+        out.write(types, 0, rows);
+        out.write(sides, 0, rows);
+
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            writeVarLong(out, zigZag(timestamps[i] - previous));
+            previous = timestamps[i];
+        }
+
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            writeVarLong(out, zigZag(priceTicks[i] - previous));
+            previous = priceTicks[i];
+        }
+
+        for (int i = 0; i < rows; i++)
+            writeVarLong(out, quantities[i]);
+        for (int i = 0; i < rows; i++)
+            writeVarLong(out, orderIds[i]);
+        for (int i = 0; i < rows; i++)
+            writeVarLong(out, counterOrderIds[i] + 1);
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a block and hands every row within [fromMillis, toMillis] to the
+     * consumer.
+     *
+     * @param raw : output of {@link #encode()}
+     */
+    static void decode(byte[] raw, long fromMillis, long toMillis, Consumer<HistoryRecord> consumer)
+            throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+
+        double tickSize = in.readDouble();
+        int rows = (int) readVarLong(in);
+        String[] ids = new String[(int) readVarLong(in)];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = in.readUTF();
+
+        byte[] types = new byte[rows];
+        byte[] sides = new byte[rows];
+        in.readFully(types);
+        in.readFully(sides);
+
+        long[] timestamps = new long[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            previous += unZigZag(readVarLong(in));
+            timestamps[i] = previous;
+        }
+
+        long[] priceTicks = new long[rows];
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            previous += unZigZag(readVarLong(in));
+            priceTicks[i] = previous;
+        }
+
+        int[] quantities = new int[rows];
+        for (int i = 0; i < rows; i++)
+            quantities[i] = (int) readVarLong(in);
+        int[] orderIds = new int[rows];
+        for (int i = 0; i < rows; i++)
+            orderIds[i] = (int) readVarLong(in);
+
+        for (int i = 0; i < rows; i++) {
+            int counterOrderId = (int) readVarLong(in) - 1;
+
+            if (timestamps[i] < fromMillis || timestamps[i] > toMillis)
+                continue;
+
+            consumer.accept(new HistoryRecord(types[i], timestamps[i], ids[orderIds[i]],
+                    counterOrderId < 0 ? null : ids[counterOrderId], sides[i], priceTicks[i] * tickSize,
+                    quantities[i]));
+        }
+    }
+
+    static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished())
+                out.write(chunk, 0, deflater.deflate(chunk));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] decompress(ByteBuffer compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, rawLength - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                read += inflated;
+            }
+
+            if (read != rawLength)
+                throw new IOException("Corrupt history block, expected " + rawLength + " bytes got " + read);
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt history block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.read();
+            if (b < 0)
+                throw new IOException("Truncated history block");
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,263 @@
+package io.mutshiv.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.mutshiv.journal.EventJournal;
+import io.mutshiv.journal.IJournal;
+import io.mutshiv.orderBook.Order;
+
+/**
+ * HistoryArchive
+ *
+ * Archives the orders and fills of one instrument into compressed columnar
+ * {@link ColumnBlock}s, partitioned by UTC day. The matching path only queues
+ * an event, a background thread encodes and writes the blocks. Matching never
+ * waits for the writer, nor sees its errors: events that do not fit the
+ * queue, or arrive once the writer has failed or the archive is closed, are
+ * dropped and counted, see {@link #getDropped()}. A writer failure is reported
+ * by {@link #getFailure()} and {@link #close()}.
+ *
+ * Every partition is two files in the instrument directory:
+ * <ul>
+ * <li>yyyy-MM-dd.col : the compressed blocks, back to back</li>
+ * <li>yyyy-MM-dd.idx : one fixed size entry per block (min/max timestamp,
+ * offset, lengths, rows), the sparse time index range scans use to skip
+ * blocks</li>
+ * </ul>
+ * A block is written before its index entry, so readers never see an entry
+ * without its data.
+ */
+public class HistoryArchive implements IJournal, Closeable {
+
+    static final String DATA_SUFFIX = ".col";
+    static final String INDEX_SUFFIX = ".idx";
+
+    /*
+     * long minTimestamp, long maxTimestamp, long offset, int compressedLength,
+     * int rawLength, int rows, int padding
+     */
+    static final int INDEX_ENTRY_SIZE = 40;
+
+    public static final int DEFAULT_BLOCK_ROWS = 4096;
+    public static final double DEFAULT_TICK_SIZE = 0.0001;
+
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final Path directory;
+    private final BlockingQueue<HistoryRecord> events;
+    private final ColumnBlock block;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+    private volatile boolean flushRequested;
+
+    private LocalDate partition;
+    private FileChannel dataChannel;
+    private FileChannel indexChannel;
+    private long lastFlushMillis;
+
+    public HistoryArchive(Path root, String instrument) throws IOException {
+        this(root, instrument, DEFAULT_BLOCK_ROWS, DEFAULT_TICK_SIZE, 1 << 16);
+    }
+
+    /**
+     * @param root          : archive root, the instrument gets a directory in it
+     * @param instrument    : instrument name
+     * @param blockRows     : rows per compressed block
+     * @param tickSize      : price resolution
+     * @param queueCapacity : events buffered between matching and the writer,
+     *                      beyond which they are dropped
+     */
+    public HistoryArchive(Path root, String instrument, int blockRows, double tickSize, int queueCapacity)
+            throws IOException {
+        this.directory = Files.createDirectories(root.resolve(instrument));
+        this.events = new ArrayBlockingQueue<>(queueCapacity);
+        this.block = new ColumnBlock(blockRows, tickSize);
+
+        this.writer = new Thread(this::writeLoop, "history-" + instrument);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void recordEntry(Order order) {
+        this.enqueue(new HistoryRecord(EventJournal.ENTER, System.currentTimeMillis(), order.getId(), null,
+                EventJournal.side(order), order.getPrice(), order.getQuantity()));
+    }
+
+    @Override
+    public void recordExit(Order order, int quantity) {
+        this.enqueue(new HistoryRecord(EventJournal.EXIT, System.currentTimeMillis(), order.getId(), null,
+                EventJournal.side(order), order.getPrice(), quantity));
+    }
+
+    @Override
+    public void recordFill(Order resting, Order incoming, int quantity, double price) {
+        this.enqueue(new HistoryRecord(EventJournal.FILL, System.currentTimeMillis(), resting.getId(),
+                incoming.getId(), EventJournal.side(resting), price, quantity));
+    }
+
+    /**
+     * Never blocks nor throws, this runs on the matching path under the LOB
+     * lock, half way through updating the book.
+     */
+    void enqueue(HistoryRecord record) {
+        if (closed || failure != null || !events.offer(record))
+            dropped.incrementAndGet();
+    }
+
+    /**
+     * @return long : events lost because the writer was a full queue behind,
+     *         had failed, or the archive was closed
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return Throwable : why the writer stopped, null while it is healthy
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Asks the writer to write out its current block, making everything queued
+     * so far visible to readers shortly.
+     */
+    public void flush() {
+        flushRequested = true;
+    }
+
+    private void writeLoop() {
+        try {
+            while (running || !events.isEmpty()) {
+                HistoryRecord record = events.poll(100, TimeUnit.MILLISECONDS);
+
+                if (record != null) {
+                    LocalDate day = Instant.ofEpochMilli(record.getTimestamp()).atZone(ZoneOffset.UTC).toLocalDate();
+                    if (!day.equals(partition))
+                        this.switchPartition(day);
+
+                    block.add(record);
+                    if (block.isFull())
+                        this.writeBlock();
+                }
+
+                long now = System.currentTimeMillis();
+                if ((flushRequested && events.isEmpty()) || now - lastFlushMillis >= FLUSH_INTERVAL_MILLIS) {
+                    flushRequested = false;
+                    this.writeBlock();
+                }
+            }
+            this.writeBlock();
+        } catch (IOException | RuntimeException | InterruptedException e) {
+            failure = e;
+        } finally {
+            try {
+                this.closePartition();
+            } catch (UncheckedIOException e) {
+                if (failure == null)
+                    failure = e.getCause();
+            }
+        }
+    }
+
+    private void switchPartition(LocalDate day) throws IOException {
+        this.writeBlock();
+        this.closePartition();
+
+        partition = day;
+        dataChannel = FileChannel.open(directory.resolve(day + DATA_SUFFIX), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        indexChannel = FileChannel.open(directory.resolve(day + INDEX_SUFFIX), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void writeBlock() throws IOException {
+        lastFlushMillis = System.currentTimeMillis();
+        if (block.isEmpty())
+            return;
+
+        byte[] raw = block.encode();
+        byte[] compressed = ColumnBlock.compress(raw);
+        long offset = dataChannel.size();
+
+        writeFully(dataChannel, ByteBuffer.wrap(compressed));
+
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        entry.putLong(block.getMinTimestamp())
+                .putLong(block.getMaxTimestamp())
+                .putLong(offset)
+                .putInt(compressed.length)
+                .putInt(raw.length)
+                .putInt(block.getRows())
+                .putInt(0)
+                .flip();
+        writeFully(indexChannel, entry);
+
+        block.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    private void closePartition() {
+        try {
+            if (dataChannel != null)
+                dataChannel.close();
+            if (indexChannel != null)
+                indexChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            dataChannel = null;
+            indexChannel = null;
+        }
+    }
+
+    /**
+     * Writes out everything queued and stops the writer.
+     *
+     * @throws IOException if the writer failed, with the failure as its cause
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // a record call racing close(), or a failed writer, leaves events behind
+        if (!writer.isAlive()) {
+            dropped.addAndGet(events.size());
+            events.clear();
+        }
+
+        if (failure != null)
+            throw new IOException("History archive writer failed", failure);
+    }
+}
@@ -0,0 +1,143 @@
+package io.mutshiv.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * HistoryReader
+ *
+ * Time range queries over a {@link HistoryArchive} root. Only the partitions
+ * of the days in range are opened, and within them only the blocks whose index
+ * entry overlaps the range are mapped and decompressed.
+ */
+public class HistoryReader {
+
+    private final Path root;
+
+    // blocks mapped and decompressed so far, lets tests check the index skips blocks
+    private long blocksDecoded;
+
+    public HistoryReader(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * All fills of an instrument within a time range.
+     *
+     * @param instrument : instrument name
+     * @param fromMillis : epoch millis, inclusive
+     * @param toMillis   : epoch millis, inclusive
+     * @return List<HistoryRecord> : in archive order, empty if none
+     */
+    public List<HistoryRecord> fills(String instrument, long fromMillis, long toMillis) {
+        List<HistoryRecord> fills = new ArrayList<>();
+        this.scan(instrument, fromMillis, toMillis, record -> {
+            if (record.isFill())
+                fills.add(record);
+        });
+        return fills;
+    }
+
+    /**
+     * Streams every archived record of an instrument within a time range to the
+     * consumer, without holding more than one block in memory.
+     *
+     * @param instrument : instrument name
+     * @param fromMillis : epoch millis, inclusive
+     * @param toMillis   : epoch millis, inclusive
+     * @param consumer   : receives the records in archive order
+     */
+    public void scan(String instrument, long fromMillis, long toMillis, Consumer<HistoryRecord> consumer) {
+        Path directory = root.resolve(instrument);
+        if (!Files.isDirectory(directory) || fromMillis > toMillis)
+            return;
+
+        LocalDate fromDay = Instant.ofEpochMilli(fromMillis).atZone(ZoneOffset.UTC).toLocalDate();
+        LocalDate toDay = Instant.ofEpochMilli(toMillis).atZone(ZoneOffset.UTC).toLocalDate();
+
+        try {
+            for (LocalDate day : this.partitions(directory)) {
+                if (!day.isBefore(fromDay) && !day.isAfter(toDay))
+                    this.scanPartition(directory, day, fromMillis, toMillis, consumer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<LocalDate> partitions(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(HistoryArchive.INDEX_SUFFIX))
+                    .map(name -> parsePartition(name.substring(0, name.length() - HistoryArchive.INDEX_SUFFIX.length())))
+                    .filter(Objects::nonNull)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return LocalDate : null for files that are not a partition
+     */
+    private static LocalDate parsePartition(String name) {
+        try {
+            return LocalDate.parse(name);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    long getBlocksDecoded() {
+        return blocksDecoded;
+    }
+
+    private void scanPartition(Path directory, LocalDate day, long fromMillis, long toMillis,
+            Consumer<HistoryRecord> consumer) throws IOException {
+        try (FileChannel indexChannel = FileChannel.open(directory.resolve(day + HistoryArchive.INDEX_SUFFIX),
+                StandardOpenOption.READ);
+                FileChannel dataChannel = FileChannel.open(directory.resolve(day + HistoryArchive.DATA_SUFFIX),
+                        StandardOpenOption.READ)) {
+
+            long entries = indexChannel.size() / HistoryArchive.INDEX_ENTRY_SIZE;
+            if (entries == 0)
+                return;
+
+            MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    entries * HistoryArchive.INDEX_ENTRY_SIZE);
+            index.order(ByteOrder.LITTLE_ENDIAN);
+
+            for (int entry = 0; entry < entries; entry++) {
+                int position = entry * HistoryArchive.INDEX_ENTRY_SIZE;
+                long minTimestamp = index.getLong(position);
+                long maxTimestamp = index.getLong(position + 8);
+
+                if (maxTimestamp < fromMillis || minTimestamp > toMillis)
+                    continue;
+
+                long offset = index.getLong(position + 16);
+                int compressedLength = index.getInt(position + 24);
+                int rawLength = index.getInt(position + 28);
+
+                blocksDecoded++;
+                MappedByteBuffer compressed = dataChannel.map(FileChannel.MapMode.READ_ONLY, offset, compressedLength);
+                ColumnBlock.decode(ColumnBlock.decompress(compressed, rawLength), fromMillis, toMillis, consumer);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.mutshiv.history;
+
+import io.mutshiv.journal.EventJournal;
+
+/**
+ * HistoryRecord
+ *
+ * One archived order event or fill. Type and side use the
+ * {@link EventJournal} codes.
+ */
+public class HistoryRecord {
+
+    private final byte type;
+    private final long timestamp;
+    private final String orderId;
+    private final String counterOrderId;
+    private final byte side;
+    private final double price;
+    private final int quantity;
+
+    /**
+     * @param type           : ENTER || EXIT || FILL
+     * @param timestamp      : epoch millis
+     * @param orderId        : the order, for FILL the resting order
+     * @param counterOrderId : for FILL the incoming order, else null
+     * @param side           : BUY || SELL of orderId
+     * @param price          : order price, for FILL the traded price
+     * @param quantity       : entered, exited or traded quantity
+     */
+    public HistoryRecord(byte type, long timestamp, String orderId, String counterOrderId, byte side, double price,
+            int quantity) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.orderId = orderId;
+        this.counterOrderId = counterOrderId;
+        this.side = side;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public boolean isFill() {
+        return type == EventJournal.FILL;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCounterOrderId() {
+        return counterOrderId;
+    }
+
+    public byte getSide() {
+        return side;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Type: %d, Time: %d, Order: %s, Counter Order: %s, Side: %s, Price: %.4f, Quantity: %d]",
+                type, timestamp, orderId, counterOrderId, side == EventJournal.BUY ? "BUY" : "SELL", price, quantity);
+    }
+}
@@ -0,0 +1,165 @@
+package io.mutshiv.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.mutshiv.orderBook.Order;
+
+/**
+ * EventJournal
+ *
+ * Append-only binary journal of the order flow and fills of a single
+ * instrument (one LOB). Records are fixed size so the file can be read back in
+ * memory-mapped windows without any parsing state, see {@link #RECORD_SIZE}.
+ *
+ * Record calls run on the matching path under the LOB lock, so they never
+ * throw. Records are buffered and written out every BUFFERED_RECORDS; an I/O
+ * failure is latched, later records are dropped and counted, and the failure
+ * is reported by {@link #getFailure()}, {@link #flush()} and {@link #close()}.
+ *
+ * Record layout (little endian):
+ * <pre>
+ * byte   type      : ENTER || EXIT || FILL
+ * byte   side      : BUY || SELL, unused for FILL
+ * short  padding
+ * int    quantity
+ * long   sequence  : book sequence of the order, for FILL the resting order
+ * double price
+ * long   timestamp : epoch millis
+ * long   aux       : for FILL the book sequence of the incoming order
+ * </pre>
+ */
+public class EventJournal implements IJournal, Closeable {
+
+    public static final int RECORD_SIZE = 40;
+
+    public static final byte ENTER = 1;
+    public static final byte EXIT = 2;
+    public static final byte FILL = 3;
+
+    public static final byte BUY = 0;
+    public static final byte SELL = 1;
+
+    private static final int BUFFERED_RECORDS = 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    private IOException failure;
+    private long dropped;
+    private boolean closed;
+
+    /**
+     * @param path : journal file, must not exist yet or be empty
+     * @throws IOException if the file already holds records, as appending to it
+     *                     would double count them at end of day
+     */
+    public EventJournal(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+        if (channel.size() != 0) {
+            channel.close();
+            throw new IOException("Journal " + path + " is not empty");
+        }
+
+        this.buffer = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFERED_RECORDS).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void recordEntry(Order order) {
+        this.append(ENTER, side(order), order.getQuantity(), order.getSequence(), order.getPrice(), 0L);
+    }
+
+    @Override
+    public void recordExit(Order order, int quantity) {
+        this.append(EXIT, side(order), quantity, order.getSequence(), order.getPrice(), 0L);
+    }
+
+    @Override
+    public void recordFill(Order resting, Order incoming, int quantity, double price) {
+        this.append(FILL, side(resting), quantity, resting.getSequence(), price, incoming.getSequence());
+    }
+
+    private synchronized void append(byte type, byte side, int quantity, long sequence, double price, long aux) {
+        if (!buffer.hasRemaining())
+            this.drain();
+
+        if (closed || failure != null) {
+            dropped++;
+            return;
+        }
+
+        buffer.put(type)
+                .put(side)
+                .putShort((short) 0)
+                .putInt(quantity)
+                .putLong(sequence)
+                .putDouble(price)
+                .putLong(System.currentTimeMillis())
+                .putLong(aux);
+    }
+
+    /**
+     * Writes out whatever is buffered.
+     *
+     * @throws IOException if a write has failed, now or earlier
+     */
+    public synchronized void flush() throws IOException {
+        this.drain();
+        this.checkFailure();
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            if (failure == null && !closed) {
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            dropped += buffer.remaining() / RECORD_SIZE;
+            buffer.clear();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null)
+            throw new IOException("Journal write failed, " + dropped + " records dropped", failure);
+    }
+
+    /**
+     * @return IOException : the write failure, null while the journal is healthy
+     */
+    public synchronized IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return long : records lost to a write failure or recorded after close
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+
+        this.drain();
+        closed = true;
+        channel.close();
+        this.checkFailure();
+    }
+
+    public static byte side(Order order) {
+        return "BUY".equalsIgnoreCase(order.getSide()) ? BUY : SELL;
+    }
+}
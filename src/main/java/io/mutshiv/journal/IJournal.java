@@ -0,0 +1,39 @@
+package io.mutshiv.journal;
+
+import io.mutshiv.orderBook.Order;
+
+/**
+ * IJournal
+ *
+ * Receives the order flow of a LOB and the fills of its MatchingEngine. Called
+ * on the matching path, so implementations must not block for long.
+ */
+public interface IJournal {
+
+    /**
+     * An order (new or modified) entered the book with its full quantity.
+     *
+     * @param order : {@link Order}
+     */
+    public void recordEntry(Order order);
+
+    /**
+     * An order left the book without trading (delete, or the old quantity of a
+     * modify).
+     *
+     * @param order    : {@link Order}
+     * @param quantity : the quantity that was still resting
+     */
+    public void recordExit(Order order, int quantity);
+
+    /**
+     * A trade between a resting and an incoming order, both sides reduce by the
+     * quantity.
+     *
+     * @param resting  : the best match on the book
+     * @param incoming : the transaction order
+     * @param quantity : traded units
+     * @param price    : traded price
+     */
+    public void recordFill(Order resting, Order incoming, int quantity, double price);
+}
@@ -0,0 +1,78 @@
+package io.mutshiv.matchEngine;
+
+/**
+ * AdaptiveIdleStrategy
+ *
+ * Switches between a hot (e.g. busy spin) and a cold (e.g. backoff) strategy
+ * based on the order arrival rate seen over the last sampling window. Busy
+ * markets get the latency of spinning, quiet ones hand the core back.
+ */
+public class AdaptiveIdleStrategy implements IIdleStrategy {
+
+    private final IIdleStrategy hot;
+    private final IIdleStrategy cold;
+    private final long hotArrivalsPerWindow;
+    private final long windowNanos;
+
+    private long windowStart;
+    private long windowArrivals;
+    private volatile boolean hotMode;
+
+    public AdaptiveIdleStrategy() {
+        this(new BusySpinIdleStrategy(), new BackoffIdleStrategy(), 10, 1_000_000);
+    }
+
+    /**
+     * @param hot                  : strategy used while arrivals are at or above
+     *                             the threshold
+     * @param cold                 : strategy used below the threshold
+     * @param hotArrivalsPerWindow : arrival threshold per window
+     * @param windowNanos          : sampling window
+     */
+    public AdaptiveIdleStrategy(IIdleStrategy hot, IIdleStrategy cold, long hotArrivalsPerWindow, long windowNanos) {
+        this.hot = hot;
+        this.cold = cold;
+        this.hotArrivalsPerWindow = hotArrivalsPerWindow;
+        this.windowNanos = windowNanos;
+        this.reset();
+    }
+
+    @Override
+    public void idle(int workCount) {
+        windowArrivals += workCount;
+
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos) {
+            boolean nextMode = windowArrivals >= hotArrivalsPerWindow;
+            if (nextMode != hotMode) {
+                hot.reset();
+                cold.reset();
+                hotMode = nextMode;
+            }
+            windowStart = now;
+            windowArrivals = 0;
+        }
+
+        if (hotMode) {
+            hot.idle(workCount);
+        } else {
+            cold.idle(workCount);
+        }
+    }
+
+    @Override
+    public void reset() {
+        hot.reset();
+        cold.reset();
+        windowStart = System.nanoTime();
+        windowArrivals = 0;
+        hotMode = false;
+    }
+
+    /**
+     * @return Boolean : true while the hot strategy is in use
+     */
+    public boolean isHot() {
+        return hotMode;
+    }
+}
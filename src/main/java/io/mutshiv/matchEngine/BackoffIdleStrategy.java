@@ -0,0 +1,65 @@
+package io.mutshiv.matchEngine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * BackoffIdleStrategy
+ *
+ * Spins, then yields, then parks for an exponentially growing period while the
+ * loop stays idle. Any work puts it back to spinning.
+ */
+public class BackoffIdleStrategy implements IIdleStrategy {
+
+    private final long maxSpins;
+    private final long maxYields;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+
+    private long spins;
+    private long yields;
+    private long parkNanos;
+
+    public BackoffIdleStrategy() {
+        this(100, 10, 1_000, 1_000_000);
+    }
+
+    /**
+     * @param maxSpins     : onSpinWait calls before yielding
+     * @param maxYields    : yields before parking
+     * @param minParkNanos : first park period
+     * @param maxParkNanos : park period cap
+     */
+    public BackoffIdleStrategy(long maxSpins, long maxYields, long minParkNanos, long maxParkNanos) {
+        if (minParkNanos <= 0 || maxParkNanos < minParkNanos)
+            throw new IllegalArgumentException("invalid park range: " + minParkNanos + " - " + maxParkNanos);
+
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+        this.reset();
+    }
+
+    @Override
+    public void idle(int workCount) {
+        if (workCount > 0) {
+            this.reset();
+        } else if (spins < maxSpins) {
+            spins++;
+            Thread.onSpinWait();
+        } else if (yields < maxYields) {
+            yields++;
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+        }
+    }
+
+    @Override
+    public void reset() {
+        spins = 0;
+        yields = 0;
+        parkNanos = minParkNanos;
+    }
+}
@@ -0,0 +1,19 @@
+package io.mutshiv.matchEngine;
+
+/**
+ * BusySpinIdleStrategy
+ *
+ * Never gives up the core, lowest latency at the cost of a full CPU.
+ */
+public class BusySpinIdleStrategy implements IIdleStrategy {
+
+    @Override
+    public void idle(int workCount) {
+        if (workCount == 0)
+            Thread.onSpinWait();
+    }
+
+    @Override
+    public void reset() {
+    }
+}
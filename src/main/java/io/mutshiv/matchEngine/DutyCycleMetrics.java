@@ -0,0 +1,99 @@
+package io.mutshiv.matchEngine;
+
+/**
+ * DutyCycleMetrics
+ *
+ * Busy versus idle time of a matching thread. Written by the matching thread
+ * only, readable from any thread.
+ */
+public class DutyCycleMetrics {
+
+    private volatile long busyNanos;
+    private volatile long idleNanos;
+    private volatile long loopIterations;
+    private volatile long ordersDequeued;
+    private volatile long totalQueueNanos;
+    private volatile long maxQueueNanos;
+    private volatile long commandFailures;
+
+    void onBusy(long nanos) {
+        busyNanos += nanos;
+        loopIterations++;
+    }
+
+    void onIdle(long nanos) {
+        idleNanos += nanos;
+        loopIterations++;
+    }
+
+    /**
+     * @param queueNanos : gap between the request's ingress and its dequeue by
+     *                   the matching thread
+     */
+    void onDequeue(long queueNanos) {
+        ordersDequeued++;
+        totalQueueNanos += queueNanos;
+        if (queueNanos > maxQueueNanos)
+            maxQueueNanos = queueNanos;
+    }
+
+    void onCommandFailure() {
+        commandFailures++;
+    }
+
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    public long getIdleNanos() {
+        return idleNanos;
+    }
+
+    public long getLoopIterations() {
+        return loopIterations;
+    }
+
+    /**
+     * @return long : new orders, modifies and cancels taken off the inbound
+     *         queue
+     */
+    public long getOrdersDequeued() {
+        return ordersDequeued;
+    }
+
+    /**
+     * @return double : share of the loop time spent matching, between 0 and 1
+     */
+    public double getDutyCycle() {
+        long busy = busyNanos;
+        long total = busy + idleNanos;
+        return total == 0 ? 0 : (double) busy / total;
+    }
+
+    /**
+     * @return long : mean ingress to dequeue gap, 0 if nothing was dequeued
+     */
+    public long getMeanQueueNanos() {
+        long dequeued = ordersDequeued;
+        return dequeued == 0 ? 0 : totalQueueNanos / dequeued;
+    }
+
+    public long getMaxQueueNanos() {
+        return maxQueueNanos;
+    }
+
+    /**
+     * @return long : commands that threw while being applied to the LOB
+     */
+    public long getCommandFailures() {
+        return commandFailures;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "[Duty Cycle: %.2f%%, Busy: %d ns, Idle: %d ns, Iterations: %d, Orders: %d, Queue Mean: %d ns, Queue Max: %d ns, Failures: %d]",
+                getDutyCycle() * 100, busyNanos, idleNanos, loopIterations, ordersDequeued, getMeanQueueNanos(),
+                maxQueueNanos, commandFailures);
+    }
+}
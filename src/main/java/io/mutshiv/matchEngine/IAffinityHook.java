@@ -0,0 +1,25 @@
+package io.mutshiv.matchEngine;
+
+import java.util.List;
+
+/**
+ * IAffinityHook
+ *
+ * Pins the calling thread to CPU cores. The JDK has no API for this, so it is
+ * left to a local implementation (JNA, taskset, ...).
+ */
+public interface IAffinityHook {
+
+    /**
+     * Does nothing, the OS schedules the thread.
+     */
+    public static final IAffinityHook NONE = cores -> {
+    };
+
+    /**
+     * Invoked on the matching thread before its loop starts.
+     *
+     * @param cores : core ids the thread may run on
+     */
+    public void pin(List<Integer> cores);
+}
@@ -0,0 +1,22 @@
+package io.mutshiv.matchEngine;
+
+/**
+ * IIdleStrategy
+ *
+ * How the matching loop waits when there is nothing to match.
+ */
+public interface IIdleStrategy {
+
+    /**
+     * Called once per loop iteration.
+     *
+     * @param workCount : orders processed in the iteration, the strategy only
+     *                  waits when this is 0
+     */
+    public void idle(int workCount);
+
+    /**
+     * Starts the strategy over, e.g. after the loop restarts.
+     */
+    public void reset();
+}
@@ -4,6 +4,7 @@ import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import io.mutshiv.journal.IJournal;
 import io.mutshiv.orderBook.IOrderBookObserver;
 import io.mutshiv.orderBook.LimitOrderBook;
 import io.mutshiv.orderBook.Order;
@@ -80,11 +81,18 @@ public class MatchingEngine implements IOrderBookObserver {
                     tradeQuantity, bestMatch.getPrice(), transactionOrder.getId(), transactionOrder.getPrice(),
                     transactionOrder.getSide(), bestMatch.getId(), bestMatch.getPrice(), bestMatch.getSide());
 
+            for (IJournal journal : this.lob.getJournals())
+                journal.recordFill(bestMatch, transactionOrder, tradeQuantity, bestMatch.getPrice());
+
             transactionOrder.reduceQuantity(tradeQuantity);
             bestMatch.reduceQuantity(tradeQuantity);
 
+            if (transactionOrder.getQuantity() == 0)
+                transactionOrder.stampEgress();
+
             if (bestMatch.getQuantity() == 0) {
                 sideOrderQueue.poll();
+                bestMatch.stampEgress();
                 this.lob.getLiveOrders().remove(bestMatch.getId());
 
                 if (transactionOrder.getQuantity() == 0)
@@ -0,0 +1,194 @@
+package io.mutshiv.matchEngine;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.mutshiv.orderBook.LimitOrderBook;
+import io.mutshiv.orderBook.Order;
+
+/**
+ * MatchingLoop
+ *
+ * Runs order entry, and so the matching of the book's MatchingEngine, on one
+ * dedicated thread. Traders queue new orders, modifies and cancels on the
+ * inbound queue, the loop applies them to the LOB in arrival order and waits
+ * according to its {@link IIdleStrategy} when it is empty.
+ *
+ * Modifies and cancels are asynchronous, so their outcome is not returned. To
+ * keep all matching on the loop thread, traders should not call the LOB's
+ * addOrder/modifyOrder/deleteOrder directly while the loop runs. A command
+ * that throws is counted in {@link DutyCycleMetrics#getCommandFailures()} and
+ * the loop carries on with the next one.
+ */
+public class MatchingLoop implements Runnable {
+
+    private final LimitOrderBook lob;
+    private final IIdleStrategy idleStrategy;
+    private final IAffinityHook affinityHook;
+    private final List<Integer> cores;
+
+    private final Queue<Command> inbound = new ConcurrentLinkedQueue<>();
+    private final DutyCycleMetrics metrics = new DutyCycleMetrics();
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread thread;
+
+    public MatchingLoop(LimitOrderBook lob, IIdleStrategy idleStrategy) {
+        this(lob, idleStrategy, IAffinityHook.NONE, Collections.<Integer>emptyList());
+    }
+
+    /**
+     * @param lob          : book the orders are entered on
+     * @param idleStrategy : how to wait while there are no orders
+     * @param affinityHook : pins the matching thread
+     * @param cores        : core list handed to the affinity hook
+     */
+    public MatchingLoop(LimitOrderBook lob, IIdleStrategy idleStrategy, IAffinityHook affinityHook,
+            List<Integer> cores) {
+        this.lob = lob;
+        this.idleStrategy = idleStrategy;
+        this.affinityHook = affinityHook;
+        this.cores = cores;
+    }
+
+    /**
+     * Queues an order for the matching thread, stamping its ingress.
+     *
+     * @param order : {@link Order}
+     * @throws IllegalStateException if the loop has been stopped
+     */
+    public void submit(Order order) {
+        this.checkNotStopped();
+        order.stampIngress();
+        inbound.offer(new Command("ADD", order, order.getId(), 0, order.getIngressNanos()));
+    }
+
+    /**
+     * Queues a quantity change, see {@link LimitOrderBook#modifyOrder(String, int)}.
+     *
+     * @param orderId          : UUID Id of the order
+     * @param newOrderQuantity : the new quantity
+     * @throws IllegalStateException if the loop has been stopped
+     */
+    public void modify(String orderId, int newOrderQuantity) {
+        this.checkNotStopped();
+        inbound.offer(new Command("MODIFY", null, orderId, newOrderQuantity, System.nanoTime()));
+    }
+
+    /**
+     * Queues a cancel, see {@link LimitOrderBook#deleteOrder(String)}.
+     *
+     * @param orderId : UUID Id of the order
+     * @throws IllegalStateException if the loop has been stopped
+     */
+    public void cancel(String orderId) {
+        this.checkNotStopped();
+        inbound.offer(new Command("DELETE", null, orderId, 0, System.nanoTime()));
+    }
+
+    private void checkNotStopped() {
+        if (stopped)
+            throw new IllegalStateException("Matching loop is stopped");
+    }
+
+    /**
+     * Starts the dedicated matching thread.
+     *
+     * @param name : thread name
+     */
+    public synchronized void start(String name) {
+        if (thread != null || stopped)
+            throw new IllegalStateException("Matching loop already started");
+
+        running = true;
+        thread = new Thread(this, name);
+        thread.start();
+    }
+
+    /**
+     * Stops the loop once the orders already submitted are drained. The loop
+     * accepts no further commands.
+     *
+     * @throws InterruptedException
+     */
+    public synchronized void stop() throws InterruptedException {
+        stopped = true;
+        running = false;
+
+        if (thread != null) {
+            thread.join();
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        affinityHook.pin(cores);
+        idleStrategy.reset();
+
+        while (running || !inbound.isEmpty()) {
+            long start = System.nanoTime();
+            int workCount = this.drain();
+
+            if (workCount > 0) {
+                metrics.onBusy(System.nanoTime() - start);
+                idleStrategy.idle(workCount);
+            } else {
+                idleStrategy.idle(0);
+                metrics.onIdle(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private int drain() {
+        int workCount = 0;
+        Command command;
+
+        while ((command = inbound.poll()) != null) {
+            metrics.onDequeue(System.nanoTime() - command.ingressNanos);
+
+            try {
+                if ("ADD".equals(command.type)) {
+                    lob.addOrder(command.order);
+                } else if ("MODIFY".equals(command.type)) {
+                    lob.modifyOrder(command.orderId, command.quantity);
+                } else {
+                    lob.deleteOrder(command.orderId);
+                }
+            } catch (RuntimeException e) {
+                metrics.onCommandFailure();
+                System.err.printf("Matching command %s failed for order %s: %s%n", command.type, command.orderId, e);
+            }
+            workCount++;
+        }
+
+        return workCount;
+    }
+
+    public DutyCycleMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * An inbound request, type is ADD || MODIFY || DELETE like the order events.
+     */
+    private static final class Command {
+
+        private final String type;
+        private final Order order;
+        private final String orderId;
+        private final int quantity;
+        private final long ingressNanos;
+
+        Command(String type, Order order, String orderId, int quantity, long ingressNanos) {
+            this.type = type;
+            this.order = order;
+            this.orderId = orderId;
+            this.quantity = quantity;
+            this.ingressNanos = ingressNanos;
+        }
+    }
+}
@@ -5,29 +5,40 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
+import io.mutshiv.journal.IJournal;
+
 public class LimitOrderBook {
 
+    /*
+     * Global across all books, so time priority holds even for orders arriving
+     * within the same millisecond (or nanosecond) on different threads.
+     */
+    private static final AtomicLong SEQUENCER = new AtomicLong();
+
     private final PriorityBlockingQueue<Order> buyOrders;
     private final PriorityBlockingQueue<Order> sellOrders;
 
     private final Lock lock = new ReentrantLock();
     private final ConcurrentHashMap<String, Order> liveOrders;
     private final List<IOrderBookObserver> observers;
+    private final List<IJournal> journals;
 
     public LimitOrderBook() {
         this.buyOrders = new PriorityBlockingQueue<>(50, Comparator.<Order>comparingDouble(Order::getPrice)
-                .thenComparingLong(Order::getOrderTimeStamp));
+                .thenComparingLong(Order::getSequence));
 
         this.sellOrders = new PriorityBlockingQueue<>(50,
                 Comparator.<Order>comparingDouble(Order::getPrice)
-                        .thenComparingLong(Order::getOrderTimeStamp));
+                        .thenComparingLong(Order::getSequence));
 
         this.liveOrders = new ConcurrentHashMap<>();
         this.observers = new ArrayList<>();
+        this.journals = new ArrayList<>();
     }
 
     public PriorityBlockingQueue<Order> getBuyOrders() {
@@ -38,6 +49,24 @@ public class LimitOrderBook {
         return sellOrders;
     }
 
+    public List<IJournal> getJournals() {
+        return journals;
+    }
+
+    /**
+     * Records the order flow of this book, and the fills of its MatchingEngine,
+     * e.g. for end of day processing or archiving.
+     *
+     * @param journal : {@link IJournal}
+     */
+    public void registerJournal(IJournal journal) {
+        journals.add(journal);
+    }
+
+    public void unregisterJournal(IJournal journal) {
+        journals.remove(journal);
+    }
+
     public void registerObserver(IOrderBookObserver observer) {
         observers.add(observer);
     }
@@ -74,7 +103,7 @@ public class LimitOrderBook {
                     .filter(order -> order.getPrice() == price
                             && order.getSide().equalsIgnoreCase(side))
                     .sorted(Comparator.comparingDouble(Order::getPrice)
-                            .thenComparingLong(Order::getOrderTimeStamp))
+                            .thenComparingLong(Order::getSequence))
                     .collect(Collectors.toList());
         } finally {
             lock.unlock();
@@ -84,12 +113,20 @@ public class LimitOrderBook {
     /**
      * Adds an order to the queue based on the order side.
      * Also updates that liveOrder map.
+     * The order is stamped with the next book sequence (time priority), and its
+     * ingress nanoTime if it has none yet, before it is queued.
      *
      * @param order : {@link Order}
      */
     public void addOrder(Order order) {
         lock.lock();
         try {
+            order.setSequence(SEQUENCER.incrementAndGet());
+            order.stampIngress();
+
+            for (IJournal journal : this.journals)
+                journal.recordEntry(order);
+
             if ("BUY".equalsIgnoreCase(order.getSide())) {
                 buyOrders.add(order);
             } else {
@@ -123,6 +160,9 @@ public class LimitOrderBook {
                     this.sellOrders.remove(order);
                 }
 
+                for (IJournal journal : this.journals)
+                    journal.recordExit(order, order.getQuantity());
+
                 /*
                  * The next two lines could have been achieved by creating a new order object
                  * entirely.
@@ -141,6 +181,8 @@ public class LimitOrderBook {
                  * on cloud environment, on Virtual machines the CPU usage will affect the
                  * performance of the application. GC itself also takes up compute time on the
                  * CPU
+                 *
+                 * The priority itself is the book sequence, which addOrder re-assigns below.
                  */
                 order.modifyOrder(newOrderQuantity);
                 order.setOrderTimeStamp(System.currentTimeMillis());
@@ -169,14 +211,20 @@ public class LimitOrderBook {
             Order order = this.liveOrders.remove(orderId);
 
             if (order != null) {
-                if ("BUY".equalsIgnoreCase(order.getSide())) {
-                    return this.buyOrders.remove(order);
-                } else {
-                    return this.sellOrders.remove(order);
-                }
+                order.stampEgress();
+
+                for (IJournal journal : this.journals)
+                    journal.recordExit(order, order.getQuantity());
+
+                boolean removed = "BUY".equalsIgnoreCase(order.getSide())
+                        ? this.buyOrders.remove(order)
+                        : this.sellOrders.remove(order);
+
+                notifyObservers(order, "DELETE");
+                return removed;
             }
 
-            notifyObservers(order, "DELETE");
+            // already filled or deleted, e.g. a cancel racing a fill
             return false;
         } finally {
             lock.unlock();
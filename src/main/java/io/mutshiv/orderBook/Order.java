@@ -12,6 +12,11 @@ public class Order {
     private final double price;
     private int quantity;
     private long orderTimeStamp;
+    private long sequence;
+    private long ingressNanos;
+    private boolean ingressStamped;
+    private long egressNanos;
+    private boolean egressStamped;
 
     public Order(double price, int quantity, String side) {
         this.id = UUID.randomUUID().toString();
@@ -29,6 +34,78 @@ public class Order {
         this.orderTimeStamp = orderTimeStamp;
     }
 
+    /**
+     * Book sequence number, assigned by the LOB every time the order enters the
+     * book. It defines time priority, a lower sequence has the higher priority.
+     *
+     * @return long : 0 if the order has not entered a book yet
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return long : System.nanoTime() stamp of when the order first arrived,
+     *         on submission to a MatchingLoop or else on entering the book
+     */
+    public long getIngressNanos() {
+        return ingressNanos;
+    }
+
+    void setIngressNanos(long ingressNanos) {
+        this.ingressNanos = ingressNanos;
+        this.ingressStamped = true;
+    }
+
+    public boolean isIngressStamped() {
+        return ingressStamped;
+    }
+
+    /**
+     * Stamps the time the order arrived. Only the first call counts, so a
+     * MatchingLoop stamp is kept when the order later enters the book.
+     */
+    public void stampIngress() {
+        if (!ingressStamped)
+            this.setIngressNanos(System.nanoTime());
+    }
+
+    /**
+     * @return long : System.nanoTime() stamp of when the order left the book,
+     *         only meaningful once {@link #isEgressStamped()}
+     */
+    public long getEgressNanos() {
+        return egressNanos;
+    }
+
+    public boolean isEgressStamped() {
+        return egressStamped;
+    }
+
+    /**
+     * Stamps the time the order left the book (filled or deleted). Only the
+     * first call counts.
+     */
+    public void stampEgress() {
+        if (!egressStamped) {
+            this.egressNanos = System.nanoTime();
+            this.egressStamped = true;
+        }
+    }
+
+    /**
+     * Time the order spent in the book, only meaningful once it has left.
+     *
+     * @return long : nanoseconds between ingress and egress, -1 if still live
+     */
+    public long getLatencyNanos() {
+        return egressStamped ? egressNanos - ingressNanos : -1;
+    }
+
     public String getId() {
         return id;
     }
@@ -0,0 +1,130 @@
+package io.mutshiv.eod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.mutshiv.journal.EventJournal;
+import io.mutshiv.matchEngine.MatchingEngine;
+import io.mutshiv.orderBook.LimitOrderBook;
+import io.mutshiv.orderBook.Order;
+
+public class EndOfDayEngineTest {
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    public void testStatisticsAndReconciliation() throws IOException {
+        Map<String, Path> journals = new LinkedHashMap<>();
+        Map<String, LimitOrderBook> books = new LinkedHashMap<>();
+
+        journals.put("ABC", journalDir.resolve("ABC.journal"));
+        journals.put("XYZ", journalDir.resolve("XYZ.journal"));
+
+        LimitOrderBook abc = new LimitOrderBook();
+        MatchingEngine abcME = new MatchingEngine(abc);
+        books.put("ABC", abc);
+
+        try (EventJournal journal = new EventJournal(journals.get("ABC"))) {
+            abc.registerJournal(journal);
+
+            abc.addOrder(new Order(100.0, 50, "SELL"));
+            Order sellOrder2 = new Order(105.0, 30, "SELL");
+            abc.addOrder(sellOrder2);
+            abc.addOrder(new Order(100.0, 30, "SELL"));
+            abc.addOrder(new Order(100.0, 50, "BUY"));
+            abc.addOrder(new Order(100.0, 20, "BUY"));
+
+            abc.modifyOrder(sellOrder2.getId(), 25);
+
+            Order buyOrder3 = new Order(95.0, 10, "BUY");
+            abc.addOrder(buyOrder3);
+            abc.deleteOrder(buyOrder3.getId());
+        }
+
+        LimitOrderBook xyz = new LimitOrderBook();
+        MatchingEngine xyzME = new MatchingEngine(xyz);
+        books.put("XYZ", xyz);
+
+        try (EventJournal journal = new EventJournal(journals.get("XYZ"))) {
+            xyz.registerJournal(journal);
+
+            xyz.addOrder(new Order(10.0, 5, "SELL"));
+            xyz.addOrder(new Order(12.0, 4, "SELL"));
+            xyz.addOrder(new Order(12.0, 6, "BUY"));
+        }
+
+        // a tiny chunk size forces the journals to be split across several tasks
+        EndOfDayEngine engine = new EndOfDayEngine(new ForkJoinPool(4), 2);
+        Map<String, InstrumentStatistics> statistics = engine.computeStatistics(journals);
+
+        InstrumentStatistics abcStats = statistics.get("ABC");
+        System.out.println(abcStats);
+        assertEquals(2, abcStats.getTradeCount());
+        assertEquals(70, abcStats.getVolume());
+        assertEquals(100.0, abcStats.getVwap(), 1e-9);
+        assertEquals(100.0, abcStats.getHigh());
+        assertEquals(100.0, abcStats.getLow());
+        assertEquals(7, abcStats.getOrderCount(), "6 new orders and a modify entered the book");
+        assertEquals(0, abcStats.getRestingBuyQuantity());
+        assertEquals(35, abcStats.getRestingSellQuantity());
+
+        InstrumentStatistics xyzStats = statistics.get("XYZ");
+        System.out.println(xyzStats);
+        assertEquals(2, xyzStats.getTradeCount());
+        assertEquals(6, xyzStats.getVolume());
+        assertEquals((5 * 10.0 + 12.0) / 6, xyzStats.getVwap(), 1e-9);
+        assertEquals(12.0, xyzStats.getHigh());
+        assertEquals(10.0, xyzStats.getLow());
+        assertEquals(3, xyzStats.getRestingSellQuantity());
+
+        assertTrue(engine.reconcile(statistics, books).isEmpty(), "Both books should agree with their journals");
+
+        xyz.getSellOrders().peek().reduceQuantity(1);
+        assertEquals(1, engine.reconcile(statistics, books).size());
+        assertFalse(statistics.get("XYZ").isConsistentWith(xyz));
+
+        abcME.removeObserver();
+        xyzME.removeObserver();
+    }
+
+    @Test
+    public void testJournalRefusesToAppendToAnOldJournal() throws IOException {
+        Path path = journalDir.resolve("ABC.journal");
+
+        try (EventJournal journal = new EventJournal(path)) {
+            journal.recordEntry(new Order(100.0, 10, "BUY"));
+        }
+
+        assertThrows(IOException.class, () -> new EventJournal(path),
+                "Reusing a day's journal would double count it at end of day");
+    }
+
+    @Test
+    public void testJournalDropsRecordsAfterClose() throws IOException {
+        LimitOrderBook lob = new LimitOrderBook();
+        EventJournal journal = new EventJournal(journalDir.resolve("ABC.journal"));
+
+        lob.registerJournal(journal);
+        journal.close();
+
+        Order order = new Order(100.0, 10, "BUY");
+        lob.addOrder(order);
+
+        assertEquals(order, lob.getBuyOrders().peek(), "A closed journal must not stop booking");
+        assertEquals(1, journal.getDropped());
+        assertNull(journal.getFailure());
+    }
+}
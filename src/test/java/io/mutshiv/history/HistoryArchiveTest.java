@@ -0,0 +1,191 @@
+package io.mutshiv.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.mutshiv.journal.EventJournal;
+import io.mutshiv.matchEngine.MatchingEngine;
+import io.mutshiv.orderBook.LimitOrderBook;
+import io.mutshiv.orderBook.Order;
+
+public class HistoryArchiveTest {
+
+    @TempDir
+    Path archiveDir;
+
+    @Test
+    public void testFillsAndCancelsSurviveTheBook() throws IOException {
+        LimitOrderBook lob = new LimitOrderBook();
+        MatchingEngine matchingEngine = new MatchingEngine(lob);
+
+        long start = System.currentTimeMillis();
+        Order sellOrder1 = new Order(100.0, 50, "SELL");
+        Order sellOrder2 = new Order(100.25, 30, "SELL");
+        Order buyOrder1 = new Order(100.25, 60, "BUY");
+        Order buyOrder2 = new Order(95.0, 10, "BUY");
+
+        // small blocks so the history is spread over several of them
+        try (HistoryArchive archive = new HistoryArchive(archiveDir, "ABC", 2, HistoryArchive.DEFAULT_TICK_SIZE, 16)) {
+            lob.registerJournal(archive);
+
+            lob.addOrder(sellOrder1);
+            lob.addOrder(sellOrder2);
+            lob.addOrder(buyOrder1);
+            lob.addOrder(buyOrder2);
+            lob.deleteOrder(buyOrder2.getId());
+
+            lob.unregisterJournal(archive);
+        }
+        long end = System.currentTimeMillis();
+        matchingEngine.removeObserver();
+
+        assertNull(lob.getLiveOrders().get(sellOrder1.getId()), "The filled order is gone from the book");
+
+        HistoryReader reader = new HistoryReader(archiveDir);
+        List<HistoryRecord> fills = reader.fills("ABC", start, end);
+        fills.forEach(System.out::println);
+
+        assertEquals(2, fills.size());
+        assertEquals(sellOrder1.getId(), fills.get(0).getOrderId());
+        assertEquals(buyOrder1.getId(), fills.get(0).getCounterOrderId());
+        assertEquals(50, fills.get(0).getQuantity());
+        assertEquals(100.0, fills.get(0).getPrice(), 1e-9);
+        assertEquals(sellOrder2.getId(), fills.get(1).getOrderId());
+        assertEquals(10, fills.get(1).getQuantity());
+        assertEquals(100.25, fills.get(1).getPrice(), 1e-9);
+
+        List<HistoryRecord> all = new ArrayList<>();
+        reader.scan("ABC", start, end, all::add);
+        assertEquals(7, all.size(), "4 entries, 2 fills and the cancel");
+
+        HistoryRecord cancel = all.get(all.size() - 1);
+        assertEquals(EventJournal.EXIT, cancel.getType());
+        assertEquals(buyOrder2.getId(), cancel.getOrderId());
+        assertEquals(EventJournal.BUY, cancel.getSide());
+
+        assertTrue(reader.fills("ABC", start - 60_000, start - 1).isEmpty(), "Nothing was archived before the start");
+        assertTrue(reader.fills("XYZ", start, end).isEmpty(), "Unknown instruments have no history");
+    }
+
+    @Test
+    public void testRecordAfterCloseIsDropped() throws IOException {
+        LimitOrderBook lob = new LimitOrderBook();
+        HistoryArchive archive = new HistoryArchive(archiveDir, "ABC");
+
+        lob.registerJournal(archive);
+        archive.close();
+
+        Order order = new Order(100.0, 10, "BUY");
+        lob.addOrder(order);
+
+        assertEquals(order, lob.getLiveOrders().get(order.getId()), "A closed archive must not stop booking");
+        assertEquals(1, lob.getBuyOrders().size());
+        assertEquals(1, archive.getDropped(), "The entry after close should be counted as dropped");
+        assertNull(archive.getFailure());
+    }
+
+    @Test
+    public void testWriterFailureIsReported() throws IOException, InterruptedException {
+        HistoryArchive archive = new HistoryArchive(archiveDir, "ABC");
+        Order order = new Order(100.0, 10, "BUY");
+
+        // the writer cannot create its partition files without the directory
+        Files.delete(archiveDir.resolve("ABC"));
+
+        archive.recordEntry(order);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (archive.getFailure() == null && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        assertNotNull(archive.getFailure(), "The writer should report why it stopped");
+
+        long dropped = archive.getDropped();
+        archive.recordEntry(order);
+        assertEquals(dropped + 1, archive.getDropped(), "Records after a writer failure should be dropped");
+
+        assertThrows(IOException.class, archive::close);
+    }
+
+    @Test
+    public void testRangeScanSkipsBlocksOutsideTheRange() throws IOException {
+        long day1 = LocalDate.of(2024, 1, 2).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long day2 = day1 + 24 * 60 * 60 * 1000L;
+
+        // two rows per block: three blocks on day 1 with separate time ranges, one on day 2
+        try (HistoryArchive archive = new HistoryArchive(archiveDir, "ABC", 2, HistoryArchive.DEFAULT_TICK_SIZE, 16)) {
+            long[] timestamps = { day1 + 1_000, day1 + 1_100, day1 + 2_000, day1 + 2_100, day1 + 3_000, day1 + 3_100,
+                    day2 + 1_000, day2 + 1_100 };
+            for (int i = 0; i < timestamps.length; i++)
+                archive.enqueue(new HistoryRecord(EventJournal.FILL, timestamps[i], "resting-" + i, "incoming-" + i,
+                        EventJournal.SELL, 100.0 + i, i + 1));
+        }
+
+        // stray files in the instrument directory must not break queries
+        Files.createFile(archiveDir.resolve("ABC").resolve("notes.idx"));
+        Files.createFile(archiveDir.resolve("ABC").resolve("README"));
+
+        HistoryReader reader = new HistoryReader(archiveDir);
+        List<HistoryRecord> fills = reader.fills("ABC", day1 + 2_000, day1 + 2_100);
+
+        assertEquals(2, fills.size());
+        assertEquals("resting-2", fills.get(0).getOrderId());
+        assertEquals("resting-3", fills.get(1).getOrderId());
+        assertEquals(1, reader.getBlocksDecoded(), "Only the block overlapping the range should be decoded");
+
+        HistoryReader dayReader = new HistoryReader(archiveDir);
+        assertEquals(6, dayReader.fills("ABC", day1, day1 + 10_000).size());
+        assertEquals(3, dayReader.getBlocksDecoded(), "Only the three day 1 blocks should be decoded");
+
+        HistoryReader emptyReader = new HistoryReader(archiveDir);
+        assertTrue(emptyReader.fills("ABC", day1 + 1_200, day1 + 1_900).isEmpty());
+        assertEquals(0, emptyReader.getBlocksDecoded(), "A range between blocks should decode nothing");
+    }
+
+    @Test
+    public void testColumnBlockRoundTrip() throws IOException {
+        ColumnBlock block = new ColumnBlock(8, 0.01);
+        List<HistoryRecord> written = new ArrayList<>();
+
+        written.add(new HistoryRecord(EventJournal.ENTER, 1_000L, "a", null, EventJournal.SELL, 101.37, 40));
+        written.add(new HistoryRecord(EventJournal.ENTER, 998L, "b", null, EventJournal.BUY, 99.5, 7));
+        written.add(new HistoryRecord(EventJournal.FILL, 1_005L, "a", "b", EventJournal.SELL, 101.37, 7));
+        written.add(new HistoryRecord(EventJournal.EXIT, 2_000L, "a", null, EventJournal.SELL, 101.37, 33));
+        written.forEach(block::add);
+
+        assertEquals(998L, block.getMinTimestamp());
+        assertEquals(2_000L, block.getMaxTimestamp());
+
+        byte[] raw = block.encode();
+        byte[] decompressed = ColumnBlock.decompress(ByteBuffer.wrap(ColumnBlock.compress(raw)), raw.length);
+
+        List<HistoryRecord> read = new ArrayList<>();
+        ColumnBlock.decode(decompressed, 998L, 1_005L, read::add);
+
+        assertEquals(3, read.size(), "The row after the range should be filtered out");
+        for (int i = 0; i < read.size(); i++) {
+            assertEquals(written.get(i).getType(), read.get(i).getType());
+            assertEquals(written.get(i).getTimestamp(), read.get(i).getTimestamp());
+            assertEquals(written.get(i).getOrderId(), read.get(i).getOrderId());
+            assertEquals(written.get(i).getCounterOrderId(), read.get(i).getCounterOrderId());
+            assertEquals(written.get(i).getSide(), read.get(i).getSide());
+            assertEquals(written.get(i).getPrice(), read.get(i).getPrice(), 1e-9);
+            assertEquals(written.get(i).getQuantity(), read.get(i).getQuantity());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package io.mutshiv.matchEngine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.mutshiv.orderBook.LimitOrderBook;
+import io.mutshiv.orderBook.Order;
+
+public class MatchingLoopTest {
+
+    /**
+     * Runs a loop, submits orders that fully cross and checks the book and the
+     * duty-cycle metrics after.
+     *
+     * @param idleStrategy : strategy under test
+     * @return DutyCycleMetrics : metrics of the stopped loop
+     */
+    private DutyCycleMetrics runCrossingOrders(IIdleStrategy idleStrategy) throws InterruptedException {
+        LimitOrderBook lob = new LimitOrderBook();
+        MatchingEngine matchingEngine = new MatchingEngine(lob);
+        MatchingLoop loop = new MatchingLoop(lob, idleStrategy);
+
+        loop.start("matching-test");
+        Thread.sleep(10);
+
+        for (int i = 0; i < 20; i++) {
+            loop.submit(new Order(100.0, 5, "SELL"));
+            loop.submit(new Order(100.0, 5, "BUY"));
+        }
+        loop.stop();
+        matchingEngine.removeObserver();
+
+        assertTrue(lob.getSellOrders().isEmpty(), "All SELL orders should have been filled");
+        assertTrue(lob.getBuyOrders().isEmpty(), "All BUY orders should have been filled");
+
+        DutyCycleMetrics metrics = loop.getMetrics();
+        System.out.println(idleStrategy.getClass().getSimpleName() + " " + metrics);
+
+        assertEquals(40, metrics.getOrdersDequeued());
+        assertTrue(metrics.getBusyNanos() > 0);
+        assertTrue(metrics.getIdleNanos() > 0, "The loop should have idled while waiting");
+        assertTrue(metrics.getLoopIterations() > 1);
+        assertTrue(metrics.getMaxQueueNanos() >= metrics.getMeanQueueNanos());
+
+        return metrics;
+    }
+
+    @Test
+    public void testBusySpin() throws InterruptedException {
+        this.runCrossingOrders(new BusySpinIdleStrategy());
+    }
+
+    @Test
+    public void testBackoff() throws InterruptedException {
+        this.runCrossingOrders(new BackoffIdleStrategy());
+    }
+
+    @Test
+    public void testAdaptive() throws InterruptedException {
+        this.runCrossingOrders(new AdaptiveIdleStrategy());
+    }
+
+    @Test
+    public void testQueueGapWithConcurrentSubmitters() throws InterruptedException {
+        LimitOrderBook lob = new LimitOrderBook();
+        MatchingEngine matchingEngine = new MatchingEngine(lob);
+        MatchingLoop loop = new MatchingLoop(lob, new BusySpinIdleStrategy());
+        ExecutorService traders = Executors.newFixedThreadPool(4);
+
+        loop.start("matching-concurrent");
+
+        for (int t = 0; t < 4; t++) {
+            String side = t % 2 == 0 ? "BUY" : "SELL";
+            traders.submit(() -> {
+                for (int i = 0; i < 500; i++)
+                    loop.submit(new Order(100.0, 1, side));
+            });
+        }
+
+        traders.shutdown();
+        assertTrue(traders.awaitTermination(30, TimeUnit.SECONDS));
+        loop.stop();
+        matchingEngine.removeObserver();
+
+        DutyCycleMetrics metrics = loop.getMetrics();
+        System.out.println("Concurrent submitters " + metrics);
+
+        assertEquals(2000, metrics.getOrdersDequeued());
+        assertTrue(metrics.getMeanQueueNanos() >= 0, "The ingress to dequeue gap can never be negative");
+        assertTrue(metrics.getMaxQueueNanos() >= metrics.getMeanQueueNanos());
+    }
+
+    @Test
+    public void testModifyAndCancelRunOnMatchingThread() throws InterruptedException {
+        LimitOrderBook lob = new LimitOrderBook();
+        MatchingEngine matchingEngine = new MatchingEngine(lob);
+        MatchingLoop loop = new MatchingLoop(lob, new BackoffIdleStrategy());
+
+        List<String> eventThreads = Collections.synchronizedList(new ArrayList<>());
+        lob.registerObserver((order, orderEvent) -> eventThreads.add(Thread.currentThread().getName()));
+
+        Order sellOrder = new Order(100.0, 10, "SELL");
+        Order buyOrder = new Order(100.0, 2, "BUY");
+        Order cancelledOrder = new Order(90.0, 5, "BUY");
+
+        loop.start("matching-commands");
+        loop.submit(sellOrder);
+        loop.submit(cancelledOrder);
+        loop.modify(sellOrder.getId(), 6);
+        loop.cancel(cancelledOrder.getId());
+        loop.submit(buyOrder);
+        loop.stop();
+        matchingEngine.removeObserver();
+
+        assertEquals(5, loop.getMetrics().getOrdersDequeued());
+        assertEquals(4, sellOrder.getQuantity(), "The modified SELL order should have traded 2 of its 6 units");
+        assertEquals(1, lob.getSellOrders().size());
+        assertTrue(lob.getBuyOrders().isEmpty(), "The cancelled BUY order should be gone");
+
+        assertFalse(eventThreads.isEmpty());
+        eventThreads.forEach(name -> assertEquals("matching-commands", name));
+    }
+
+    @Test
+    public void testCancelOfFilledOrderKeepsLoopAlive() throws InterruptedException {
+        LimitOrderBook lob = new LimitOrderBook();
+        MatchingEngine matchingEngine = new MatchingEngine(lob);
+        MatchingLoop loop = new MatchingLoop(lob, new BackoffIdleStrategy());
+
+        Order sellOrder1 = new Order(100.0, 5, "SELL");
+        Order buyOrder1 = new Order(100.0, 5, "BUY");
+        Order sellOrder2 = new Order(100.0, 3, "SELL");
+        Order buyOrder2 = new Order(100.0, 3, "BUY");
+
+        loop.start("matching-race");
+        loop.submit(sellOrder1);
+        loop.submit(buyOrder1);
+        // the cancel arrives after the fill, the order is no longer on the book
+        loop.cancel(sellOrder1.getId());
+        loop.submit(sellOrder2);
+        loop.submit(buyOrder2);
+        loop.stop();
+        matchingEngine.removeObserver();
+
+        assertEquals(0, sellOrder2.getQuantity(), "The order after the late cancel should still match");
+        assertEquals(0, buyOrder2.getQuantity());
+        assertTrue(lob.getSellOrders().isEmpty());
+        assertTrue(lob.getBuyOrders().isEmpty());
+        assertEquals(0, loop.getMetrics().getCommandFailures());
+
+        assertThrows(IllegalStateException.class, () -> loop.submit(new Order(100.0, 1, "BUY")));
+        assertThrows(IllegalStateException.class, () -> loop.modify(sellOrder2.getId(), 1));
+        assertThrows(IllegalStateException.class, () -> loop.cancel(sellOrder2.getId()));
+    }
+
+    @Test
+    public void testFailingCommandIsCounted() throws InterruptedException {
+        LimitOrderBook lob = new LimitOrderBook();
+        MatchingEngine matchingEngine = new MatchingEngine(lob);
+        MatchingLoop loop = new MatchingLoop(lob, new BackoffIdleStrategy());
+
+        lob.registerObserver((order, orderEvent) -> {
+            if (order.getQuantity() == 13)
+                throw new IllegalArgumentException("unlucky order");
+        });
+
+        Order sellOrder = new Order(100.0, 4, "SELL");
+        Order buyOrder = new Order(100.0, 4, "BUY");
+
+        loop.start("matching-failure");
+        loop.submit(new Order(90.0, 13, "BUY"));
+        loop.submit(sellOrder);
+        loop.submit(buyOrder);
+        loop.stop();
+        matchingEngine.removeObserver();
+
+        assertEquals(1, loop.getMetrics().getCommandFailures());
+        assertEquals(0, sellOrder.getQuantity(), "The loop should carry on after a failing command");
+        assertEquals(0, buyOrder.getQuantity());
+    }
+
+    @Test
+    public void testAdaptiveSwitchesOnArrivalRate() throws InterruptedException {
+        AdaptiveIdleStrategy strategy = new AdaptiveIdleStrategy(new BusySpinIdleStrategy(),
+                new BackoffIdleStrategy(), 10, 1_000);
+
+        assertFalse(strategy.isHot(), "A new strategy starts cold");
+
+        Thread.sleep(1);
+        strategy.idle(50);
+        assertTrue(strategy.isHot(), "A busy window should switch to the hot strategy");
+
+        Thread.sleep(1);
+        strategy.idle(0);
+        assertFalse(strategy.isHot(), "A quiet window should switch back to the cold strategy");
+    }
+
+    @Test
+    public void testAffinityHookRunsOnMatchingThread() throws InterruptedException {
+        AtomicReference<String> pinnedThread = new AtomicReference<>();
+        AtomicReference<List<Integer>> pinnedCores = new AtomicReference<>();
+        List<Integer> cores = Arrays.asList(2, 3);
+
+        MatchingLoop loop = new MatchingLoop(new LimitOrderBook(), new BackoffIdleStrategy(), c -> {
+            pinnedThread.set(Thread.currentThread().getName());
+            pinnedCores.set(c);
+        }, cores);
+
+        loop.start("matching-pinned");
+        loop.stop();
+
+        assertEquals("matching-pinned", pinnedThread.get());
+        assertEquals(cores, pinnedCores.get());
+    }
+}
@@ -2,6 +2,7 @@ package io.mutshiv.orderBook;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
@@ -165,4 +166,38 @@ public class LimitOrderBookTest {
         System.out.println("\nAll orders in the LOB on modify Method::");
         this.viewLiveOrders(orderBook.getLiveOrders());
     }
+
+    @Test
+    @org.junit.jupiter.api.Order(6)
+    @DisplayName("Orders at the same price keep strict FIFO even within the same millisecond")
+    void sameMillisecondPriority() {
+        LimitOrderBook orderBook = new LimitOrderBook();
+        List<Order> placed = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            Order order = new Order(100.0, 10, "SELL");
+            placed.add(order);
+            orderBook.addOrder(order);
+        }
+
+        for (Order expected : placed) {
+            Order next = orderBook.getSellOrders().poll();
+            assertEquals(expected, next, "Orders at the same price must leave in arrival order");
+            assertTrue(next.isIngressStamped(), "Ingress should be stamped at book entry");
+        }
+        assertNull(orderBook.getSellOrders().poll());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(7)
+    void deleteOrderStampsEgress() {
+        LimitOrderBook orderBook = new LimitOrderBook();
+        Order order = new Order(100.0, 10, "BUY");
+
+        orderBook.addOrder(order);
+        assertEquals(-1, order.getLatencyNanos(), "A live order has no latency yet");
+
+        assertTrue(orderBook.deleteOrder(order.getId()));
+        assertTrue(order.getLatencyNanos() >= 0, "A deleted order should carry its time in the book");
+    }
 }